@@ -1,10 +1,14 @@
 package net.intelie.challenges.eventstore;
 
 import net.intelie.challenges.eventstore.model.Event;
+import net.intelie.challenges.eventstore.model.EventPage;
 import net.intelie.challenges.eventstore.interfaces.EventIterator;
 import net.intelie.challenges.eventstore.interfaces.EventStore;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 
 
@@ -68,4 +72,64 @@ public class ConcurrentEventStore implements EventStore {
     public EventIterator query(String type, long startTime, long endTime) {
         return new EventByTypeIterator(this.events.subMap(startTime, endTime).values().iterator(), type);
     }
+
+    /**
+     * Query the event store for the first page of events of a given type inside a given range.
+     *
+     * @param type      The type we are querying for.
+     * @param startTime Start timestamp (inclusive).
+     * @param endTime   End timestamp (exclusive).
+     * @param limit     Maximum number of events in the page.
+     *
+     * @return the first page of the event subset
+     */
+    @Override
+    public EventPage query(String type, long startTime, long endTime, int limit) {
+        return page(type, this.events.subMap(startTime, true, endTime, false), endTime, limit);
+    }
+
+    /**
+     * Resume a paginated query right after the last event of the previous page.
+     * Instead of skipping the events already returned, the sub map starts at the last timestamp (exclusive), which
+     * is a O(log n) seek on the skip list. As the position is a key and not an offset, concurrent insertions and
+     * removals do not make the next page repeat or skip events that were present on both pages.
+     *
+     * @param continuationToken Token of the previous page.
+     * @param limit             Maximum number of events in the page.
+     *
+     * @return the next page of the event subset
+     */
+    @Override
+    public EventPage resume(String continuationToken, int limit) {
+        ContinuationToken token = ContinuationToken.decode(continuationToken);
+        return page(token.type(), this.events.subMap(token.lastTimestamp(), false, token.endTime(), false),
+                token.endTime(), limit);
+    }
+
+    /**
+     * Collect up to limit events of a given type from a range of the events map.
+     * A continuation token is only provided when the page is full, so the last page may be empty.
+     *
+     * @param type    event type
+     * @param range   sub map to walk through
+     * @param endTime end timestamp of the query (exclusive)
+     * @param limit   maximum number of events in the page
+     *
+     * @return the page of events
+     */
+    private EventPage page(String type, ConcurrentNavigableMap<Long, Event> range, long endTime, int limit) {
+        if(limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive: " + limit);
+        }
+        List<Event> page = new ArrayList<>();
+        EventIterator iterator = new EventByTypeIterator(range.values().iterator(), type);
+        while(page.size() < limit && iterator.moveNext()) {
+            page.add(iterator.current());
+        }
+        if(page.size() < limit) {
+            return new EventPage(page, null);
+        }
+        long lastTimestamp = page.get(page.size() - 1).timestamp();
+        return new EventPage(page, new ContinuationToken(type, lastTimestamp, endTime).encode());
+    }
 }
@@ -0,0 +1,105 @@
+package net.intelie.challenges.eventstore;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a paginated query, exchanged with clients as an opaque string.
+ * It holds the queried type, the end of the queried range and the timestamp of the last event returned. Since the
+ * events map holds one event per timestamp, the last timestamp alone is enough to resume right after it, regardless
+ * of insertions and removals that happened between pages.
+ */
+public class ContinuationToken {
+
+    /** Separator of the encoded fields **/
+    private static final char SEPARATOR = ':';
+
+    /** Event type being queried **/
+    private final String type;
+
+    /** Timestamp of the last event returned (exclusive start of the next page) **/
+    private final long lastTimestamp;
+
+    /** End timestamp of the queried range (exclusive) **/
+    private final long endTime;
+
+    /**
+     * Public constructor of the continuation token
+     * @param type event type
+     * @param lastTimestamp timestamp of the last event returned
+     * @param endTime end timestamp of the queried range
+     */
+    public ContinuationToken(String type, long lastTimestamp, long endTime) {
+        this.type = type;
+        this.lastTimestamp = lastTimestamp;
+        this.endTime = endTime;
+    }
+
+    /**
+     * Encodes the token as an url safe string.
+     *
+     * @return the opaque token
+     */
+    public String encode() {
+        String raw = Long.toString(lastTimestamp) + SEPARATOR + endTime + SEPARATOR + type;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque token
+     * @return the decoded continuation token
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ContinuationToken decode(String token) {
+        if(token == null) {
+            throw new IllegalArgumentException("Continuation token is null");
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed continuation token: " + token, e);
+        }
+        int first = raw.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : raw.indexOf(SEPARATOR, first + 1);
+        if(second < 0) {
+            throw new IllegalArgumentException("Malformed continuation token: " + token);
+        }
+        try {
+            return new ContinuationToken(raw.substring(second + 1),
+                    Long.parseLong(raw.substring(0, first)),
+                    Long.parseLong(raw.substring(first + 1, second)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed continuation token: " + token, e);
+        }
+    }
+
+    /**
+     * Type getter.
+     *
+     * @return event type being queried
+     */
+    public String type() {
+        return type;
+    }
+
+    /**
+     * Last timestamp getter.
+     *
+     * @return timestamp of the last event returned
+     */
+    public long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * End time getter.
+     *
+     * @return end timestamp of the queried range (exclusive)
+     */
+    public long endTime() {
+        return endTime;
+    }
+}
@@ -1,6 +1,7 @@
 package net.intelie.challenges.eventstore.interfaces;
 
 import net.intelie.challenges.eventstore.model.Event;
+import net.intelie.challenges.eventstore.model.EventPage;
 
 /**
  * An abstraction of an event store.
@@ -36,4 +37,29 @@ public interface EventStore {
      * (inclusive) and {@param endTime} (exclusive).
      */
     EventIterator query(String type, long startTime, long endTime);
+
+    /**
+     * Retrieves the first page of events based on their type and timestamp.
+     *
+     * @param type      The type we are querying for.
+     * @param startTime Start timestamp (inclusive).
+     * @param endTime   End timestamp (exclusive).
+     * @param limit     Maximum number of events in the page.
+     * @return A page with at most {@param limit} events of type {@param type}
+     * sorted by timestamp, and a continuation token to fetch the next page
+     * through {@link #resume}.
+     * @throws IllegalArgumentException if {@param limit} is not positive.
+     */
+    EventPage query(String type, long startTime, long endTime, int limit);
+
+    /**
+     * Retrieves the page of events right after the one that produced the given continuation token.
+     * Events inserted or removed between pages do not shift the pages already fetched.
+     *
+     * @param continuationToken Token of the previous page.
+     * @param limit             Maximum number of events in the page.
+     * @return The next page of the query.
+     * @throws IllegalArgumentException if the token is malformed or {@param limit} is not positive.
+     */
+    EventPage resume(String continuationToken, int limit);
 }
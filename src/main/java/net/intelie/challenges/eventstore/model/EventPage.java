@@ -0,0 +1,59 @@
+package net.intelie.challenges.eventstore.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of events returned by a paginated query, along with the continuation token to fetch the next page.
+ */
+public class EventPage {
+
+    /**
+     * Events of this page, sorted by timestamp.
+     */
+    private final List<Event> events;
+
+    /**
+     * Opaque token used to resume the query right after the last event of this page.
+     * It is null when there are no more events to be fetched.
+     */
+    private final String continuationToken;
+
+    /**
+     * Event page constructor.
+     *
+     * @param events            events of the page
+     * @param continuationToken token for the next page, or null if this is the last one
+     */
+    public EventPage(List<Event> events, String continuationToken) {
+        this.events = Collections.unmodifiableList(events);
+        this.continuationToken = continuationToken;
+    }
+
+    /**
+     * Events getter.
+     *
+     * @return unmodifiable list of the events of this page
+     */
+    public List<Event> events() {
+        return events;
+    }
+
+    /**
+     * Continuation token getter.
+     *
+     * @return token for the next page, or null if this is the last one
+     */
+    public String continuationToken() {
+        return continuationToken;
+    }
+
+    /**
+     * Whether there may be more events after this page.
+     *
+     * @return true if a continuation token is available
+     */
+    public boolean hasMore() {
+        return continuationToken != null;
+    }
+}
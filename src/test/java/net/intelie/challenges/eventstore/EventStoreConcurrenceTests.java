@@ -7,6 +7,9 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -20,6 +23,9 @@ import java.util.stream.IntStream;
  *
  * We use a random generator based timestamps of the events. Although rare, identical timestamps might happen in some
  * test execution.
+ *
+ * The stress tests at the end use {@link EventStoreStressHarness}, which avoids both issues: timestamps never collide,
+ * threads are awaited until they finish and invariants are asserted instead of printed.
  */
 public class EventStoreConcurrenceTests {
 
@@ -44,6 +50,7 @@ public class EventStoreConcurrenceTests {
             executorService.execute(producer);
         }
         System.out.println("Waiting all events to be inserted...");
+        executorService.shutdown();
         if (!executorService.awaitTermination(waitTime, TimeUnit.SECONDS)) {
             executorService.shutdownNow();
         }
@@ -85,6 +92,7 @@ public class EventStoreConcurrenceTests {
         }
 
         System.out.println("Waiting all events to be inserted...");
+        executorService.shutdown();
         if (!executorService.awaitTermination(waitTime, TimeUnit.SECONDS)) {
             executorService.shutdownNow();
         }
@@ -119,6 +127,7 @@ public class EventStoreConcurrenceTests {
         }
 
         System.out.println("Waiting all events to be performed...");
+        executorService.shutdown();
         if (!executorService.awaitTermination(waitTime, TimeUnit.SECONDS)) {
             executorService.shutdownNow();
         }
@@ -177,6 +186,7 @@ public class EventStoreConcurrenceTests {
 
 
         System.out.println("Waiting all events to be performed...");
+        executorService.shutdown();
         if (!executorService.awaitTermination(waitTime, TimeUnit.SECONDS)) {
             executorService.shutdownNow();
         }
@@ -190,4 +200,111 @@ public class EventStoreConcurrenceTests {
         Assert.assertTrue(count < 100000);
         System.out.println("Remains " + count + " after parallel insertions and deletions ");
     }
+
+    /**
+     * Stress test a mix of insertions, queries, pages, iterator removals and removals by type, checking ordering,
+     * type filtering and that no insertion is lost.
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testStressMixedOperations() throws InterruptedException {
+        EventStoreStressHarness.Report report = new EventStoreStressHarness(ConcurrentEventStore::new)
+                .threads(8)
+                .operationsPerThread(5000)
+                .run();
+        System.out.println(report);
+        for (EventStoreStressHarness.Operation operation : EventStoreStressHarness.Operation.values()) {
+            Assert.assertTrue(report.operations(operation) > 0);
+        }
+    }
+
+    /**
+     * Stress test insertions racing with wide queries and pages only, where every insertion must be kept.
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testStressInsertionsAndQueries() throws InterruptedException {
+        EventStoreStressHarness.Report report = new EventStoreStressHarness(ConcurrentEventStore::new)
+                .threads(8)
+                .operationsPerThread(5000)
+                .weight(EventStoreStressHarness.Operation.ITERATOR_REMOVE, 0)
+                .weight(EventStoreStressHarness.Operation.REMOVE_ALL, 0)
+                .queryWidth(2048)
+                .run();
+        System.out.println(report);
+        Assert.assertTrue(report.operations(EventStoreStressHarness.Operation.INSERT) > 0);
+        Assert.assertTrue(report.operations(EventStoreStressHarness.Operation.QUERY) > 0);
+        Assert.assertTrue(report.operations(EventStoreStressHarness.Operation.PAGE) > 0);
+    }
+
+    /**
+     * Tests that concurrent insertions, queries and removals of single timestamps are linearizable.
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testLinearizableSingleEventOperations() throws InterruptedException {
+        new EventStoreStressHarness(ConcurrentEventStore::new)
+                .threads(4)
+                .checkLinearizability(2000, 4);
+    }
+
+    /**
+     * Tests that the linearizability checker accepts overlapping operations in any order, but rejects a query that
+     * misses an insertion completed before it started.
+     */
+    @Test
+    public void testLinearizabilityChecker() {
+        List<LinearizabilityChecker.Operation> history = Arrays.asList(
+                LinearizabilityChecker.Operation.insert(1L, "A", 0L, 10L),
+                LinearizabilityChecker.Operation.get(1L, "A", false, 5L, 7L),
+                LinearizabilityChecker.Operation.get(1L, "A", true, 8L, 12L),
+                LinearizabilityChecker.Operation.remove(1L, "A", 13L, 15L),
+                LinearizabilityChecker.Operation.get(1L, "A", false, 16L, 17L));
+        Assert.assertTrue(LinearizabilityChecker.check(history).isEmpty());
+
+        history = Arrays.asList(
+                LinearizabilityChecker.Operation.insert(1L, "A", 0L, 10L),
+                LinearizabilityChecker.Operation.insert(2L, "A", 0L, 10L),
+                LinearizabilityChecker.Operation.get(2L, "A", false, 11L, 12L));
+        Assert.assertEquals(Collections.singletonList(2L), LinearizabilityChecker.check(history));
+
+        history = Arrays.asList(
+                LinearizabilityChecker.Operation.insert(1L, "A", 0L, 10L),
+                LinearizabilityChecker.Operation.insert(1L, "B", 11L, 12L),
+                LinearizabilityChecker.Operation.get(1L, "A", true, 13L, 14L));
+        Assert.assertEquals(Collections.singletonList(1L), LinearizabilityChecker.check(history));
+    }
+
+    /**
+     * Tests that the linearizability checker accepts removals of a replaced event both by timestamp and by event, but
+     * rejects a removal that keeps the event it targeted.
+     */
+    @Test
+    public void testLinearizabilityCheckerRemovals() {
+        List<LinearizabilityChecker.Operation> history = Arrays.asList(
+                LinearizabilityChecker.Operation.insert(1L, "A", 0L, 1L),
+                LinearizabilityChecker.Operation.get(1L, "A", true, 2L, 3L),
+                LinearizabilityChecker.Operation.insert(1L, "B", 4L, 5L),
+                LinearizabilityChecker.Operation.remove(1L, "A", 6L, 7L),
+                LinearizabilityChecker.Operation.get(1L, "B", true, 8L, 9L));
+        Assert.assertTrue(LinearizabilityChecker.check(history).isEmpty());
+
+        history = Arrays.asList(
+                LinearizabilityChecker.Operation.insert(1L, "A", 0L, 1L),
+                LinearizabilityChecker.Operation.get(1L, "A", true, 2L, 3L),
+                LinearizabilityChecker.Operation.insert(1L, "B", 4L, 5L),
+                LinearizabilityChecker.Operation.remove(1L, "A", 6L, 7L),
+                LinearizabilityChecker.Operation.get(1L, "B", false, 8L, 9L));
+        Assert.assertTrue(LinearizabilityChecker.check(history).isEmpty());
+
+        history = Arrays.asList(
+                LinearizabilityChecker.Operation.insert(1L, "A", 0L, 1L),
+                LinearizabilityChecker.Operation.get(1L, "A", true, 2L, 3L),
+                LinearizabilityChecker.Operation.remove(1L, "A", 4L, 5L),
+                LinearizabilityChecker.Operation.get(1L, "A", true, 6L, 7L));
+        Assert.assertEquals(Collections.singletonList(1L), LinearizabilityChecker.check(history));
+    }
 }
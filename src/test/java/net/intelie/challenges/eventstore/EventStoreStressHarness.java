@@ -0,0 +1,729 @@
+package net.intelie.challenges.eventstore;
+
+import net.intelie.challenges.eventstore.interfaces.EventIterator;
+import net.intelie.challenges.eventstore.interfaces.EventStore;
+import net.intelie.challenges.eventstore.model.Event;
+import net.intelie.challenges.eventstore.model.EventPage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Stress harness for any {@link EventStore} implementation.
+ *
+ * Many threads run a configurable mix of operations against a single store, released together by a latch. Every
+ * inserted event gets a timestamp no other insert uses, so no insert is expected to be overwritten. Events are split in
+ * stable types, which are never removed, and volatile types, the only ones targeted by removals. While running, each
+ * query and page is checked for ascending timestamps, type filtering and range bounds. Once all threads are done the
+ * store content is checked against what was inserted and removed:
+ * <ul>
+ *     <li>every event inserted is present, unless an iterator removed it or a removeAll of its type finished after
+ *     the insert was invoked (no lost inserts);</li>
+ *     <li>every present event was inserted with that type (no phantom events);</li>
+ *     <li>every event removed by an iterator is absent;</li>
+ *     <li>every event inserted before a removeAll of its type was invoked is absent.</li>
+ * </ul>
+ * Latencies are measured per operation and summarized on a {@link Report} with throughput and tail percentiles.
+ *
+ * {@link #checkLinearizability} runs a separate workload of single timestamp operations and verifies the recorded
+ * history with the {@link LinearizabilityChecker}. An iterator removal is recorded along with the type of the event it
+ * was meant to remove, so stores that remove by timestamp and stores that only remove the current event are both
+ * accepted.
+ */
+public class EventStoreStressHarness {
+
+    /**
+     * Operations driven by the harness.
+     */
+    public enum Operation {
+        INSERT, QUERY, PAGE, ITERATOR_REMOVE, REMOVE_ALL
+    }
+
+    /** Types never targeted by removals **/
+    private static final String[] STABLE_TYPES = {"stable-0", "stable-1"};
+
+    /** Types targeted by iterator removals and removeAll **/
+    private static final String[] VOLATILE_TYPES = {"volatile-0", "volatile-1"};
+
+    /** Types of the linearizability workload **/
+    private static final String[] REGISTER_TYPES = {"A", "B"};
+
+    /** Timestamps used by each round of the linearizability workload **/
+    private static final int KEYS_PER_ROUND = 2;
+
+    /** Store factory, a new store is created for each run **/
+    private final Supplier<EventStore> storeFactory;
+
+    /** Weight of each operation on the mix **/
+    private final EnumMap<Operation, Integer> weights = new EnumMap<>(Operation.class);
+
+    /** Number of concurrent threads **/
+    private int threads = 8;
+
+    /** Operations performed by each thread **/
+    private int operationsPerThread = 10000;
+
+    /** Width of the timestamp ranges of queries, pages and iterator removals **/
+    private long queryWidth = 1024;
+
+    /** Maximum events per page of paginated queries **/
+    private int pageLimit = 16;
+
+    /** Seed of the random generators of the threads **/
+    private long seed = System.nanoTime();
+
+    /** Time the threads may take before the run is failed **/
+    private long timeoutSeconds = 120;
+
+    /**
+     * Public constructor of the harness, with the default mix of operations.
+     * @param storeFactory creates the store under test
+     */
+    public EventStoreStressHarness(Supplier<EventStore> storeFactory) {
+        this.storeFactory = storeFactory;
+        weights.put(Operation.INSERT, 50);
+        weights.put(Operation.QUERY, 20);
+        weights.put(Operation.PAGE, 10);
+        weights.put(Operation.ITERATOR_REMOVE, 15);
+        weights.put(Operation.REMOVE_ALL, 1);
+    }
+
+    /**
+     * Sets the number of concurrent threads.
+     *
+     * @throws IllegalArgumentException if the number is not positive
+     */
+    public EventStoreStressHarness threads(int threads) {
+        if(threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Sets the number of operations performed by each thread.
+     *
+     * @throws IllegalArgumentException if the number is negative
+     */
+    public EventStoreStressHarness operationsPerThread(int operationsPerThread) {
+        if(operationsPerThread < 0) {
+            throw new IllegalArgumentException("Operations per thread must not be negative: " + operationsPerThread);
+        }
+        this.operationsPerThread = operationsPerThread;
+        return this;
+    }
+
+    /**
+     * Sets the weight of an operation on the mix. A zero weight disables the operation.
+     *
+     * @throws IllegalArgumentException if the weight is negative
+     */
+    public EventStoreStressHarness weight(Operation operation, int weight) {
+        if(weight < 0) {
+            throw new IllegalArgumentException("Operation weight must not be negative: " + weight);
+        }
+        weights.put(operation, weight);
+        return this;
+    }
+
+    /**
+     * Sets the width of the timestamp ranges used by queries, pages and iterator removals.
+     *
+     * @throws IllegalArgumentException if the width is negative
+     */
+    public EventStoreStressHarness queryWidth(long queryWidth) {
+        if(queryWidth < 0) {
+            throw new IllegalArgumentException("Query width must not be negative: " + queryWidth);
+        }
+        this.queryWidth = queryWidth;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of events per page of paginated queries.
+     *
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public EventStoreStressHarness pageLimit(int pageLimit) {
+        if(pageLimit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive: " + pageLimit);
+        }
+        this.pageLimit = pageLimit;
+        return this;
+    }
+
+    /**
+     * Sets the seed of the random generators, so that the mix of a failed run can be replayed.
+     */
+    public EventStoreStressHarness seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Sets how long the threads may take before the run is failed.
+     *
+     * @throws IllegalArgumentException if the timeout is not positive
+     */
+    public EventStoreStressHarness timeoutSeconds(long timeoutSeconds) {
+        if(timeoutSeconds <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive: " + timeoutSeconds);
+        }
+        this.timeoutSeconds = timeoutSeconds;
+        return this;
+    }
+
+    /**
+     * Runs the mix of operations and checks the store invariants.
+     *
+     * @return throughput and latencies of the run
+     * @throws AssertionError if an invariant is violated
+     */
+    public Report run() throws InterruptedException {
+        EventStore store = storeFactory.get();
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        if(totalWeight <= 0) {
+            throw new IllegalArgumentException("At least one operation must have a positive weight");
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Worker>> workers = new ArrayList<>();
+        for(int t = 0; t < threads; t++) {
+            Worker worker = new Worker(store, t, totalWeight);
+            workers.add(() -> {
+                start.await();
+                worker.run();
+                return worker;
+            });
+        }
+        long begin = System.nanoTime();
+        List<Worker> done = execute(workers, start);
+        long elapsed = System.nanoTime() - begin;
+
+        try {
+            verify(store, done);
+        } catch (AssertionError e) {
+            throw new AssertionError(e.getMessage() + " (seed " + seed + ")", e);
+        }
+        return new Report(done, elapsed, seed);
+    }
+
+    /**
+     * Runs rounds of concurrent inserts, single timestamp queries and removals, then checks that the recorded history
+     * is linearizable. Each round works on fresh timestamps and rounds are separated by a barrier, so each timestamp
+     * sees a bounded number of operations.
+     *
+     * @param rounds              number of rounds
+     * @param operationsPerRound  operations of each thread on each round
+     * @throws AssertionError if the history is not linearizable
+     */
+    public void checkLinearizability(int rounds, int operationsPerRound) throws InterruptedException {
+        // a removal is recorded as a query followed by the removal itself
+        if(threads * operationsPerRound * 2 > LinearizabilityChecker.MAX_OPERATIONS_PER_KEY) {
+            throw new IllegalArgumentException("Too many operations per round for the linearizability checker");
+        }
+        EventStore store = storeFactory.get();
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        List<Callable<List<LinearizabilityChecker.Operation>>> workers = new ArrayList<>();
+        for(int t = 0; t < threads; t++) {
+            Random random = new Random(seed + t);
+            workers.add(() -> {
+                List<LinearizabilityChecker.Operation> history = new ArrayList<>();
+                try {
+                    for(int round = 0; round < rounds; round++) {
+                        barrier.await(timeoutSeconds, TimeUnit.SECONDS);
+                        for(int i = 0; i < operationsPerRound; i++) {
+                            long key = (long) round * KEYS_PER_ROUND + random.nextInt(KEYS_PER_ROUND);
+                            registerOperation(store, key, random, history);
+                        }
+                    }
+                } catch (Throwable failure) {
+                    // releases the threads waiting for this one on the barrier
+                    barrier.reset();
+                    throw failure;
+                }
+                return history;
+            });
+        }
+        List<LinearizabilityChecker.Operation> history = new ArrayList<>();
+        for(List<LinearizabilityChecker.Operation> operations : execute(workers, null)) {
+            history.addAll(operations);
+        }
+        List<Long> violations = LinearizabilityChecker.check(history);
+        if(!violations.isEmpty()) {
+            throw new AssertionError("Non linearizable history (seed " + seed + ") on timestamps " + violations
+                    + ", first one:\n" + LinearizabilityChecker.describe(history, violations.get(0)));
+        }
+    }
+
+    /**
+     * Performs a random single timestamp operation and records it on the history.
+     */
+    private void registerOperation(EventStore store, long key, Random random,
+                                   List<LinearizabilityChecker.Operation> history) {
+        String type = REGISTER_TYPES[random.nextInt(REGISTER_TYPES.length)];
+        int choice = random.nextInt(3);
+        long invoke = System.nanoTime();
+        if(choice == 0) {
+            store.insert(new Event(type, key));
+            history.add(LinearizabilityChecker.Operation.insert(key, type, invoke, System.nanoTime()));
+            return;
+        }
+        EventIterator iterator = store.query(type, key, key + 1);
+        boolean seen = iterator.moveNext();
+        history.add(LinearizabilityChecker.Operation.get(key, type, seen, invoke, System.nanoTime()));
+        if(seen && choice == 2) {
+            invoke = System.nanoTime();
+            iterator.remove();
+            history.add(LinearizabilityChecker.Operation.remove(key, type, invoke, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Runs the tasks on a thread each and waits for all of them.
+     *
+     * @param tasks tasks to be run
+     * @param start latch released once all tasks are submitted, may be null
+     * @return the results of the tasks
+     * @throws AssertionError if a task fails or the timeout expires
+     */
+    private <T> List<T> execute(List<Callable<T>> tasks, CountDownLatch start) throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(tasks.size());
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for(Callable<T> task : tasks) {
+                futures.add(executorService.submit(task));
+            }
+            if(start != null) {
+                start.countDown();
+            }
+            executorService.shutdown();
+            boolean finished = executorService.awaitTermination(timeoutSeconds, TimeUnit.SECONDS);
+            Throwable failure = failure(futures);
+            if(failure instanceof AssertionError) {
+                throw new AssertionError(failure.getMessage() + " (seed " + seed + ")", failure);
+            }
+            if(failure != null) {
+                throw new AssertionError("Worker failed (seed " + seed + ")", failure);
+            }
+            if(!finished) {
+                throw new AssertionError("Threads did not finish in " + timeoutSeconds + " seconds (seed " + seed + ")");
+            }
+            List<T> results = new ArrayList<>();
+            for(Future<T> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new AssertionError("Worker failed (seed " + seed + ")", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Finds the failure of the tasks already finished. A broken barrier only means another task failed first, so the
+     * failure of that other task is preferred.
+     *
+     * @param futures futures of the tasks
+     * @return the cause of the failure, or null if no finished task failed
+     */
+    private static <T> Throwable failure(List<Future<T>> futures) throws InterruptedException {
+        Throwable failure = null;
+        for(Future<T> future : futures) {
+            if(!future.isDone()) {
+                continue;
+            }
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if(!(e.getCause() instanceof BrokenBarrierException)) {
+                    return e.getCause();
+                }
+                failure = e.getCause();
+            }
+        }
+        return failure;
+    }
+
+    /**
+     * Checks the store content against the inserts and removals of all threads.
+     */
+    private void verify(EventStore store, List<Worker> workers) {
+        Map<Long, Event> present = new HashMap<>();
+        for(String type : allTypes()) {
+            EventIterator iterator = store.query(type, Long.MIN_VALUE, Long.MAX_VALUE);
+            long previous = Long.MIN_VALUE;
+            while(iterator.moveNext()) {
+                Event event = iterator.current();
+                check(event.type().equals(type), "Final query for " + type + " returned " + event.type());
+                check(event.timestamp() > previous, "Final query out of order at " + event.timestamp());
+                previous = event.timestamp();
+                present.put(event.timestamp(), event);
+            }
+        }
+
+        Map<String, Long> lastRemoveAllInvoke = new HashMap<>();
+        Map<String, Long> lastRemoveAllResponse = new HashMap<>();
+        Map<Long, String> inserted = new HashMap<>();
+        Set<Long> removed = new HashSet<>();
+        for(Worker worker : workers) {
+            for(int i = 0; i < worker.removeAllTypes.size(); i++) {
+                lastRemoveAllInvoke.merge(worker.removeAllTypes.get(i), worker.removeAllInvokes[i], Math::max);
+                lastRemoveAllResponse.merge(worker.removeAllTypes.get(i), worker.removeAllResponses[i], Math::max);
+            }
+            removed.addAll(worker.removed);
+            for(int i = 0; i < worker.inserted.size(); i++) {
+                inserted.put(worker.inserted.get(i).timestamp(), worker.inserted.get(i).type());
+            }
+        }
+
+        for(Event event : present.values()) {
+            check(event.type().equals(inserted.get(event.timestamp())),
+                    "Phantom event " + event.type() + " at " + event.timestamp());
+        }
+        for(Worker worker : workers) {
+            for(int i = 0; i < worker.inserted.size(); i++) {
+                Event event = worker.inserted.get(i);
+                Long removeAllInvoke = lastRemoveAllInvoke.get(event.type());
+                Long removeAllResponse = lastRemoveAllResponse.get(event.type());
+                if(!removed.contains(event.timestamp())
+                        && (removeAllResponse == null || removeAllResponse < worker.insertInvokes[i])) {
+                    check(present.containsKey(event.timestamp()),
+                            "Lost insert of " + event.type() + " at " + event.timestamp());
+                }
+                if(removeAllInvoke != null && worker.insertResponses[i] < removeAllInvoke) {
+                    check(!present.containsKey(event.timestamp()),
+                            "Event " + event.type() + " at " + event.timestamp() + " survived a later removeAll");
+                }
+            }
+        }
+        for(long timestamp : removed) {
+            check(!present.containsKey(timestamp), "Removed event at " + timestamp + " is still present");
+        }
+    }
+
+    /**
+     * @return stable and volatile types
+     */
+    private static String[] allTypes() {
+        String[] types = Arrays.copyOf(STABLE_TYPES, STABLE_TYPES.length + VOLATILE_TYPES.length);
+        System.arraycopy(VOLATILE_TYPES, 0, types, STABLE_TYPES.length, VOLATILE_TYPES.length);
+        return types;
+    }
+
+    /**
+     * Fails with the given message if the condition does not hold.
+     */
+    private static void check(boolean condition, String message) {
+        if(!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Operations of a single thread, along with what it inserted and removed.
+     */
+    private class Worker {
+
+        /** Store under test **/
+        private final EventStore store;
+
+        /** Index of the thread, used to interleave inserted timestamps **/
+        private final int index;
+
+        /** Sum of the operation weights **/
+        private final int totalWeight;
+
+        /** Random generator of the thread, seeded from the harness seed **/
+        private final Random random;
+
+        /** Types used by inserts and queries **/
+        private final String[] types = allTypes();
+
+        /** Operation performed at each step **/
+        private final Operation[] operations = new Operation[operationsPerThread];
+
+        /** Latency in nanoseconds of each step **/
+        private final long[] latencies = new long[operationsPerThread];
+
+        /** Events inserted, in insertion order **/
+        private final List<Event> inserted = new ArrayList<>();
+
+        /** Invocation instant of each insert **/
+        private final long[] insertInvokes = new long[operationsPerThread];
+
+        /** Response instant of each insert **/
+        private final long[] insertResponses = new long[operationsPerThread];
+
+        /** Timestamps of the events removed through iterators **/
+        private final List<Long> removed = new ArrayList<>();
+
+        /** Type of each removeAll **/
+        private final List<String> removeAllTypes = new ArrayList<>();
+
+        /** Invocation instant of each removeAll **/
+        private final long[] removeAllInvokes = new long[operationsPerThread];
+
+        /** Response instant of each removeAll **/
+        private final long[] removeAllResponses = new long[operationsPerThread];
+
+        /**
+         * Worker constructor.
+         *
+         * @param store       store under test
+         * @param index       index of the thread
+         * @param totalWeight sum of the operation weights
+         */
+        private Worker(EventStore store, int index, int totalWeight) {
+            this.store = store;
+            this.index = index;
+            this.totalWeight = totalWeight;
+            this.random = new Random(seed + index);
+        }
+
+        /**
+         * Performs the operations of the thread, measuring each one.
+         */
+        private void run() {
+            for(int i = 0; i < operationsPerThread; i++) {
+                Operation operation = pick();
+                long invoke = System.nanoTime();
+                switch(operation) {
+                    case INSERT:
+                        insert();
+                        break;
+                    case QUERY:
+                        query();
+                        break;
+                    case PAGE:
+                        page();
+                        break;
+                    case ITERATOR_REMOVE:
+                        iteratorRemove();
+                        break;
+                    default:
+                        String type = VOLATILE_TYPES[random.nextInt(VOLATILE_TYPES.length)];
+                        removeAllInvokes[removeAllTypes.size()] = invoke;
+                        store.removeAll(type);
+                        removeAllResponses[removeAllTypes.size()] = System.nanoTime();
+                        removeAllTypes.add(type);
+                }
+                operations[i] = operation;
+                latencies[i] = System.nanoTime() - invoke;
+            }
+        }
+
+        /**
+         * Picks an operation according to the weights of the mix.
+         */
+        private Operation pick() {
+            int value = random.nextInt(totalWeight);
+            for(Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+                value -= entry.getValue();
+                if(value < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException();
+        }
+
+        /**
+         * Inserts an event with a timestamp no other thread uses.
+         */
+        private void insert() {
+            // timestamps are interleaved among threads, so no two inserts collide
+            Event event = new Event(types[random.nextInt(types.length)], (long) inserted.size() * threads + index);
+            insertInvokes[inserted.size()] = System.nanoTime();
+            store.insert(event);
+            insertResponses[inserted.size()] = System.nanoTime();
+            inserted.add(event);
+        }
+
+        /**
+         * Picks the start of a query range among the timestamps that may be inserted.
+         */
+        private long randomStart() {
+            long bound = Math.max(1L, (long) operationsPerThread * threads);
+            return random.nextInt((int) Math.min(Integer.MAX_VALUE, bound));
+        }
+
+        /**
+         * Queries a random range, checking the events returned.
+         */
+        private void query() {
+            String type = types[random.nextInt(types.length)];
+            long startTime = randomStart();
+            long endTime = startTime + queryWidth;
+            EventIterator iterator = store.query(type, startTime, endTime);
+            long previous = startTime - 1;
+            while(iterator.moveNext()) {
+                previous = checkEvent(iterator.current(), type, previous, endTime);
+            }
+        }
+
+        /**
+         * Pages through a random range until the last page, checking the events returned.
+         */
+        private void page() {
+            String type = types[random.nextInt(types.length)];
+            long startTime = randomStart();
+            long endTime = startTime + queryWidth;
+            EventPage page = store.query(type, startTime, endTime, pageLimit);
+            long previous = startTime - 1;
+            while(true) {
+                check(page.events().size() <= pageLimit, "Page with " + page.events().size() + " events");
+                for(Event event : page.events()) {
+                    previous = checkEvent(event, type, previous, endTime);
+                }
+                if(!page.hasMore()) {
+                    return;
+                }
+                page = store.resume(page.continuationToken(), pageLimit);
+            }
+        }
+
+        /**
+         * Removes the first event of a volatile type in a random range through an iterator.
+         */
+        private void iteratorRemove() {
+            String type = VOLATILE_TYPES[random.nextInt(VOLATILE_TYPES.length)];
+            long startTime = randomStart();
+            long endTime = startTime + queryWidth;
+            EventIterator iterator = store.query(type, startTime, endTime);
+            if(iterator.moveNext()) {
+                Event event = iterator.current();
+                checkEvent(event, type, startTime - 1, endTime);
+                iterator.remove();
+                removed.add(event.timestamp());
+            }
+        }
+
+        /**
+         * Checks that an event returned by a query matches its type and comes after the previous one.
+         *
+         * @return the event timestamp
+         */
+        private long checkEvent(Event event, String type, long previous, long endTime) {
+            check(event.type().equals(type), "Query for " + type + " returned " + event.type());
+            check(event.timestamp() > previous,
+                    "Query for " + type + " out of order: " + event.timestamp() + " after " + previous);
+            check(event.timestamp() < endTime, "Query returned " + event.timestamp() + " past " + endTime);
+            return event.timestamp();
+        }
+    }
+
+    /**
+     * Throughput and latency percentiles of a run, per operation.
+     */
+    public static class Report {
+
+        /** Sorted latencies in nanoseconds of each operation **/
+        private final EnumMap<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+
+        /** Wall clock duration of the run **/
+        private final long elapsedNanos;
+
+        /** Seed of the run **/
+        private final long seed;
+
+        /**
+         * Report constructor, merging the latencies of all threads.
+         *
+         * @param workers      threads of the run
+         * @param elapsedNanos wall clock duration of the run
+         * @param seed         seed of the run
+         */
+        private Report(List<Worker> workers, long elapsedNanos, long seed) {
+            this.elapsedNanos = elapsedNanos;
+            this.seed = seed;
+            EnumMap<Operation, Integer> counts = new EnumMap<>(Operation.class);
+            for(Worker worker : workers) {
+                for(Operation operation : worker.operations) {
+                    counts.merge(operation, 1, Integer::sum);
+                }
+            }
+            counts.forEach((operation, count) -> latencies.put(operation, new long[count]));
+            EnumMap<Operation, Integer> filled = new EnumMap<>(Operation.class);
+            for(Worker worker : workers) {
+                for(int i = 0; i < worker.operations.length; i++) {
+                    int position = filled.merge(worker.operations[i], 1, Integer::sum) - 1;
+                    latencies.get(worker.operations[i])[position] = worker.latencies[i];
+                }
+            }
+            latencies.values().forEach(Arrays::sort);
+        }
+
+        /**
+         * @return number of operations of a kind performed on the run
+         */
+        public int operations(Operation operation) {
+            long[] values = latencies.get(operation);
+            return values == null ? 0 : values.length;
+        }
+
+        /**
+         * @return operations of a kind per second of the run
+         */
+        public double throughput(Operation operation) {
+            return operations(operation) * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * @return operations of all kinds per second of the run
+         */
+        public double throughput() {
+            return latencies.values().stream().mapToLong(values -> values.length).sum() * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Latency percentile of an operation, using the nearest rank.
+         *
+         * @param operation  operation kind
+         * @param percentile between 0 (exclusive) and 100 (inclusive)
+         * @return the latency in nanoseconds, or 0 if the operation was never performed
+         */
+        public long percentile(Operation operation, double percentile) {
+            long[] values = latencies.get(operation);
+            if(values == null || values.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * values.length);
+            return values[Math.max(0, Math.min(values.length, rank) - 1)];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(String.format("%-16s %10s %12s %10s %10s %10s %10s%n",
+                    "operation", "count", "ops/s", "p50 us", "p99 us", "p99.9 us", "max us"));
+            for(Operation operation : latencies.keySet()) {
+                builder.append(String.format("%-16s %10d %12.0f %10.1f %10.1f %10.1f %10.1f%n", operation,
+                        operations(operation), throughput(operation),
+                        percentile(operation, 50) / 1e3, percentile(operation, 99) / 1e3,
+                        percentile(operation, 99.9) / 1e3, percentile(operation, 100) / 1e3));
+            }
+            builder.append(String.format("%-16s %10s %12.0f%n", "total", "", throughput()));
+            builder.append("seed ").append(seed).append('\n');
+            return builder.toString();
+        }
+    }
+}
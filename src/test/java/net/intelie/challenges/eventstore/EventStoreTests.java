@@ -1,6 +1,7 @@
 package net.intelie.challenges.eventstore;
 
 import net.intelie.challenges.eventstore.model.Event;
+import net.intelie.challenges.eventstore.model.EventPage;
 import net.intelie.challenges.eventstore.interfaces.EventIterator;
 import net.intelie.challenges.eventstore.interfaces.EventStore;
 import org.junit.Test;
@@ -232,4 +233,106 @@ public class EventStoreTests {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Test paginating a query and resuming it through continuation tokens.
+     */
+    @Test
+    public void testQueryPages() {
+        EventStore eventStore = new ConcurrentEventStore();
+        for(long timestamp = 1L; timestamp <= 10L; timestamp++) {
+            eventStore.insert(new Event(timestamp % 2 == 0 ? "A" : "B", timestamp));
+        }
+
+        EventPage page = eventStore.query("A", 0L, 9L, 2);
+        assertEquals(2, page.events().size());
+        assertEquals(2L, page.events().get(0).timestamp());
+        assertEquals(4L, page.events().get(1).timestamp());
+        assertTrue(page.hasMore());
+
+        page = eventStore.resume(page.continuationToken(), 2);
+        assertEquals(2, page.events().size());
+        assertEquals(6L, page.events().get(0).timestamp());
+        assertEquals(8L, page.events().get(1).timestamp());
+        assertTrue(page.hasMore());
+
+        page = eventStore.resume(page.continuationToken(), 2);
+        assertTrue(page.events().isEmpty());
+        assertFalse(page.hasMore());
+
+        page = eventStore.query("B", 0L, 9L, 10);
+        assertEquals(4, page.events().size());
+        assertFalse(page.hasMore());
+    }
+
+    /**
+     * Test that insertions and removals between pages do not make the next page repeat or skip events.
+     */
+    @Test
+    public void testQueryPagesWithModificationsBetweenPages() {
+        EventStore eventStore = new ConcurrentEventStore();
+        eventStore.insert(new Event("A", 10L));
+        eventStore.insert(new Event("A", 20L));
+        eventStore.insert(new Event("A", 30L));
+        eventStore.insert(new Event("A", 40L));
+
+        EventPage page = eventStore.query("A", 0L, 100L, 2);
+        assertEquals(20L, page.events().get(1).timestamp());
+
+        // before the cursor, must not shift the next page
+        eventStore.insert(new Event("A", 5L));
+        EventIterator iterator = eventStore.query("A", 10L, 11L);
+        assertTrue(iterator.moveNext());
+        iterator.remove();
+        // after the cursor, must show up on the next page
+        eventStore.insert(new Event("A", 35L));
+
+        page = eventStore.resume(page.continuationToken(), 2);
+        assertEquals(2, page.events().size());
+        assertEquals(30L, page.events().get(0).timestamp());
+        assertEquals(35L, page.events().get(1).timestamp());
+
+        page = eventStore.resume(page.continuationToken(), 2);
+        assertEquals(1, page.events().size());
+        assertEquals(40L, page.events().get(0).timestamp());
+        assertFalse(page.hasMore());
+    }
+
+    /**
+     * Test the exceptions thrown for invalid page limits and continuation tokens.
+     */
+    @Test
+    public void testQueryPagesWithInvalidArguments() {
+        EventStore eventStore = new ConcurrentEventStore();
+        eventStore.insert(new Event("A", 10L));
+        try {
+            eventStore.query("A", 0L, 100L, 0);
+            fail("Should have thrown IllegalArgumentException");
+        } catch (IllegalArgumentException iae) {
+            // expected behavior
+        }
+        try {
+            eventStore.resume("not a token", 10);
+            fail("Should have thrown IllegalArgumentException");
+        } catch (IllegalArgumentException iae) {
+            // expected behavior
+        }
+        try {
+            eventStore.resume(new ContinuationToken("A", 1L, 100L).encode(), -1);
+            fail("Should have thrown IllegalArgumentException");
+        } catch (IllegalArgumentException iae) {
+            // expected behavior
+        }
+    }
+
+    /**
+     * Test that the continuation token keeps types with any character.
+     */
+    @Test
+    public void testContinuationTokenEncoding() {
+        ContinuationToken token = ContinuationToken.decode(new ContinuationToken("some:type \u00e7", -5L, 100L).encode());
+        assertEquals("some:type \u00e7", token.type());
+        assertEquals(-5L, token.lastTimestamp());
+        assertEquals(100L, token.endTime());
+    }
+
+}
@@ -0,0 +1,202 @@
+package net.intelie.challenges.eventstore;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Checks whether a concurrent history of single timestamp operations is linearizable.
+ *
+ * The store is modeled as a map from timestamp to event type, where each timestamp is an independent register that is
+ * either empty or holds a type. Since operations on different timestamps do not interfere, the history is split by
+ * timestamp and each sub history is checked on its own (a history is linearizable if and only if each of its per key
+ * sub histories is). Each sub history is searched following Wing and Gong: repeatedly pick an operation invoked before
+ * every pending operation has responded, apply it to the model and backtrack when a read disagrees with the model.
+ * Visited (done operations, model state) pairs are memoized to keep the search cheap.
+ *
+ * A removal comes from an iterator, so it targets the event of the type the iterator returned. If the timestamp still
+ * holds that type, the removal empties it. If another insertion replaced the event in the meantime, the interface does
+ * not say whether the replacing event is removed as well: a store may remove by timestamp or only remove the current
+ * event, so both outcomes are accepted.
+ *
+ * Range queries and removeAll are not modeled: the store iterators are weakly consistent, so those operations are not
+ * atomic and are verified by the invariants of {@link EventStoreStressHarness} instead.
+ */
+public class LinearizabilityChecker {
+
+    /** Maximum operations on a single timestamp, bounded by the bit mask of done operations **/
+    public static final int MAX_OPERATIONS_PER_KEY = 63;
+
+    /**
+     * Kinds of operations on a single timestamp.
+     */
+    public enum Kind {
+        /** Stores an event of a type on the timestamp **/
+        INSERT,
+        /** Removes the event of a type from the timestamp **/
+        REMOVE,
+        /** Queries the timestamp for an event of a type **/
+        GET
+    }
+
+    /**
+     * A completed operation of the history, with its invocation and response instants in nanoseconds.
+     */
+    public static class Operation {
+
+        /** Timestamp the operation works on **/
+        private final long key;
+
+        /** Kind of the operation **/
+        private final Kind kind;
+
+        /** Type inserted, queried or removed **/
+        private final String type;
+
+        /** Whether a query found an event of its type **/
+        private final boolean seen;
+
+        /** Instant the operation was invoked **/
+        private final long invoke;
+
+        /** Instant the operation returned **/
+        private final long response;
+
+        /**
+         * Operation constructor, use the factory methods instead.
+         */
+        private Operation(long key, Kind kind, String type, boolean seen, long invoke, long response) {
+            this.key = key;
+            this.kind = kind;
+            this.type = type;
+            this.seen = seen;
+            this.invoke = invoke;
+            this.response = response;
+        }
+
+        /**
+         * An insertion of an event of the given type.
+         */
+        public static Operation insert(long key, String type, long invoke, long response) {
+            return new Operation(key, Kind.INSERT, type, false, invoke, response);
+        }
+
+        /**
+         * A removal, through an iterator, of an event of the given type.
+         */
+        public static Operation remove(long key, String type, long invoke, long response) {
+            return new Operation(key, Kind.REMOVE, type, false, invoke, response);
+        }
+
+        /**
+         * A query for an event of the given type, and whether it was found.
+         */
+        public static Operation get(long key, String type, boolean seen, long invoke, long response) {
+            return new Operation(key, Kind.GET, type, seen, invoke, response);
+        }
+
+        @Override
+        public String toString() {
+            return kind + "(" + key + ", " + type + (kind == Kind.GET ? ") -> " + seen : ")")
+                    + " [" + invoke + ", " + response + "]";
+        }
+    }
+
+    /**
+     * Checks a history.
+     *
+     * @param history operations of all threads, in any order
+     * @return the timestamps whose sub history is not linearizable, empty if the whole history is linearizable
+     * @throws IllegalArgumentException if a timestamp has more than {@link #MAX_OPERATIONS_PER_KEY} operations
+     */
+    public static List<Long> check(List<Operation> history) {
+        Map<Long, List<Operation>> byKey = new TreeMap<>();
+        for(Operation operation : history) {
+            byKey.computeIfAbsent(operation.key, key -> new ArrayList<>()).add(operation);
+        }
+        List<Long> violations = new ArrayList<>();
+        for(Map.Entry<Long, List<Operation>> entry : byKey.entrySet()) {
+            List<Operation> operations = entry.getValue();
+            if(operations.size() > MAX_OPERATIONS_PER_KEY) {
+                throw new IllegalArgumentException("Too many operations on timestamp " + entry.getKey() + ": "
+                        + operations.size());
+            }
+            if(!search(operations, 0L, null, new HashSet<>())) {
+                violations.add(entry.getKey());
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Formats the sub history of a timestamp, for failure messages.
+     *
+     * @param history operations of all threads
+     * @param key     timestamp to be formatted
+     * @return the operations on the timestamp, one per line
+     */
+    public static String describe(List<Operation> history, long key) {
+        StringBuilder builder = new StringBuilder();
+        for(Operation operation : history) {
+            if(operation.key == key) {
+                builder.append(operation).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Searches for a linearization of the operations not done yet.
+     *
+     * @param operations sub history of a single timestamp
+     * @param done       bit mask of operations already linearized
+     * @param state      type held by the timestamp, null if empty
+     * @param visited    memo of (done, state) pairs already explored
+     * @return true if a linearization exists
+     */
+    private static boolean search(List<Operation> operations, long done, String state, Set<String> visited) {
+        if(Long.bitCount(done) == operations.size()) {
+            return true;
+        }
+        if(!visited.add(done + "|" + state)) {
+            return false;
+        }
+        long minResponse = Long.MAX_VALUE;
+        for(int i = 0; i < operations.size(); i++) {
+            if((done & (1L << i)) == 0) {
+                minResponse = Math.min(minResponse, operations.get(i).response);
+            }
+        }
+        for(int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            if((done & (1L << i)) != 0 || operation.invoke > minResponse) {
+                continue;
+            }
+            long next = done | (1L << i);
+            switch(operation.kind) {
+                case INSERT:
+                    if(search(operations, next, operation.type, visited)) {
+                        return true;
+                    }
+                    break;
+                case REMOVE:
+                    if(search(operations, next, null, visited)) {
+                        return true;
+                    }
+                    // the event was replaced by another type, which a store may keep
+                    if(state != null && !operation.type.equals(state) && search(operations, next, state, visited)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    if(operation.type.equals(state) == operation.seen && search(operations, next, state, visited)) {
+                        return true;
+                    }
+            }
+        }
+        return false;
+    }
+}